@@ -0,0 +1,32 @@
+package modelo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Codifica y decodifica claves o valores para HashtableSerializador.
+ * Cada implementación es responsable de escribir lo necesario para poder
+ * leer el objeto de vuelta (por ejemplo, su longitud antes de sus bytes).
+ *
+ * @author Franco Bacinello
+ * @param <T> tipo de los objetos que codifica.
+ */
+public interface Codec< T >
+{
+    /**
+     * Escribe el objeto en la salida.
+     * @param out salida donde escribir.
+     * @param t objeto a escribir. Nunca es nulo.
+     * @throws IOException - si falla la escritura.
+     */
+    void escribir(DataOutput out, T t) throws IOException;
+
+    /**
+     * Lee un objeto escrito previamente con escribir().
+     * @param in entrada de donde leer.
+     * @return el objeto leído.
+     * @throws IOException - si falla la lectura o los datos son inválidos.
+     */
+    T leer(DataInput in) throws IOException;
+}
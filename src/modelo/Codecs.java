@@ -0,0 +1,115 @@
+package modelo;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Codecs predefinidos para los tipos de clave y valor más comunes.
+ *
+ * @author Franco Bacinello
+ */
+public final class Codecs
+{
+    /*
+     * Tamaño a partir del cual los arreglos de bytes se leen por bloques,
+     * para no reservar de una vez una longitud leída de datos no confiables.
+     */
+    private static final int TAMANIO_BLOQUE = 64 * 1024;
+
+    /**
+     * String como longitud en bytes (int) seguida de sus bytes en UTF-8. A
+     * diferencia de writeUTF() no tiene límite de 64 KB.
+     */
+    public static final Codec<String> STRING = new Codec<String>() {
+
+        public void escribir(DataOutput out, String t) throws IOException {
+            byte[] bytes = t.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+
+        public String leer(DataInput in) throws IOException {
+            return new String(leerBytes(in), StandardCharsets.UTF_8);
+        }
+    };
+
+    /**
+     * Integer como 4 bytes big-endian.
+     */
+    public static final Codec<Integer> INTEGER = new Codec<Integer>() {
+
+        public void escribir(DataOutput out, Integer t) throws IOException {
+            out.writeInt(t);
+        }
+
+        public Integer leer(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+
+    /**
+     * Long como 8 bytes big-endian.
+     */
+    public static final Codec<Long> LONG = new Codec<Long>() {
+
+        public void escribir(DataOutput out, Long t) throws IOException {
+            out.writeLong(t);
+        }
+
+        public Long leer(DataInput in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    /**
+     * Arreglo de bytes como longitud (int) seguida de su contenido.
+     */
+    public static final Codec<byte[]> BYTES = new Codec<byte[]>() {
+
+        public void escribir(DataOutput out, byte[] t) throws IOException {
+            out.writeInt(t.length);
+            out.write(t);
+        }
+
+        public byte[] leer(DataInput in) throws IOException {
+            return leerBytes(in);
+        }
+    };
+
+    private Codecs() {
+    }
+
+    private static byte[] leerBytes(DataInput in) throws IOException {
+        int longitud = in.readInt();
+
+        if (longitud < 0)
+            throw new IOException("Longitud invalida: " + longitud);
+
+        if (longitud <= TAMANIO_BLOQUE) {
+            byte[] bytes = new byte[longitud];
+            in.readFully(bytes);
+            return bytes;
+        }
+
+        /*
+         * El arreglo crece al doble a medida que llegan los datos, así que
+         * una longitud falsa falla con EOFException sin haber reservado mas
+         * del doble de lo que realmente se leyó.
+         */
+        byte[] bytes = new byte[TAMANIO_BLOQUE];
+        int leidos = 0;
+
+        while (leidos < longitud) {
+            if (leidos == bytes.length)
+                bytes = Arrays.copyOf(bytes, (int) Math.min(longitud, 2L * bytes.length));
+
+            int n = Math.min(bytes.length, longitud) - leidos;
+            in.readFully(bytes, leidos, n);
+            leidos += n;
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,283 @@
+package modelo;
+
+import java.util.AbstractCollection;
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Base de las tablas hash que guardan sus entradas en posiciones numeradas
+ * (HashtableCuckoo, HashtableCompacta). Implementa las vistas del mapa, las
+ * enumeraciones keys()/elements(), equals(), hashCode() y toString() a partir
+ * de cuatro operaciones sobre posiciones que define cada tabla.
+ *
+ * @author Franco Bacinello
+ * @param <K>
+ * @param <V>
+ */
+abstract class HashtableAbstracta< K, V > implements Map< K, V >
+{
+    static final int KEYS = 0;
+    static final int VALUES = 1;
+    static final int ENTRADAS = 2;
+
+    /**
+     * Busca la próxima posición con una entrada viva.
+     * @param desde primera posición a revisar.
+     * @return la posición encontrada, o -1 si no hay más entradas.
+     */
+    abstract int siguiente(int desde);
+
+    abstract Object claveEn(int posicion);
+
+    abstract Object valorEn(int posicion);
+
+    /**
+     * Elimina la entrada de la posición indicada.
+     * @param posicion posición de una entrada viva.
+     * @return la posición desde la que debe seguir un recorrido en curso.
+     */
+    abstract int quitarEn(int posicion);
+
+    public boolean contains(Object value) {
+        return containsValue(value);
+    }
+
+    /**
+     * Copia todas las asignaciones del mapa especificado a esta tabla.
+     * @param m asignaciones a almacenar en esta tabla.
+     */
+    public void putAll(Map<? extends K, ? extends V> m) {
+        for (Map.Entry<? extends K, ? extends V> e : m.entrySet()) {
+            put(e.getKey(), e.getValue());
+        }
+    }
+
+    public Enumeration<V> elements() {
+        return this.<V>getEnumeration(VALUES);
+    }
+
+    public Enumeration<K> keys() {
+        return this.<K>getEnumeration(KEYS);
+    }
+
+    public Set<K> keySet() {
+        return new AbstractSet<K>() {
+
+            @Override
+            public Iterator<K> iterator() {
+                return new Enumerator<K>(KEYS);
+            }
+
+            @Override
+            public int size() {
+                return HashtableAbstracta.this.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public boolean remove(Object o) {
+                return HashtableAbstracta.this.remove(o) != null;
+            }
+
+            @Override
+            public void clear() {
+                HashtableAbstracta.this.clear();
+            }
+        };
+    }
+
+    public Collection<V> values() {
+        return new AbstractCollection<V>() {
+
+            @Override
+            public Iterator<V> iterator() {
+                return new Enumerator<V>(VALUES);
+            }
+
+            @Override
+            public int size() {
+                return HashtableAbstracta.this.size();
+            }
+
+            @Override
+            public void clear() {
+                HashtableAbstracta.this.clear();
+            }
+        };
+    }
+
+    public Set<Entry<K, V>> entrySet() {
+        return new AbstractSet<Entry<K, V>>() {
+
+            @Override
+            public Iterator<Entry<K, V>> iterator() {
+                return new Enumerator<Entry<K, V>>(ENTRADAS);
+            }
+
+            @Override
+            public int size() {
+                return HashtableAbstracta.this.size();
+            }
+
+            @Override
+            public void clear() {
+                HashtableAbstracta.this.clear();
+            }
+        };
+    }
+
+    /**
+     * Compara el objeto especificado con este mapa.
+     * @param o
+     * @return true si o es un Map con las mismas asignaciones.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof Map)) return false;
+
+        Map<?, ?> m = (Map<?, ?>) o;
+        if (m.size() != size()) return false;
+
+        for (int i = siguiente(0); i >= 0; i = siguiente(i + 1)) {
+            if (!valorEn(i).equals(m.get(claveEn(i)))) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        int h = 0;
+        for (int i = siguiente(0); i >= 0; i = siguiente(i + 1)) {
+            h += claveEn(i).hashCode() ^ valorEn(i).hashCode();
+        }
+        return h;
+    }
+
+    /**
+     * Obtiene y devuelve una cadena con todos los elementos de la tabla.
+     * @return la cadena con todos los elementos que hay.
+     */
+    @Override
+    public String toString() {
+        if (isEmpty()) return "No hay elementos en la Hash Table ...";
+
+        StringBuilder cadena = new StringBuilder();
+
+        for (int i = siguiente(0); i >= 0; i = siguiente(i + 1)) {
+            cadena.append(claveEn(i)).append('=').append(valorEn(i)).append(", ");
+        }
+        return cadena.toString();
+    }
+
+    private <T>Enumeration<T> getEnumeration(int type) {
+        if (isEmpty()) {
+            return Collections.emptyEnumeration();
+        } else {
+            return new Enumerator<T>(type);
+        }
+    }
+
+    /**
+     * Recorre las posiciones con entradas vivas. Sirve tanto de Enumeration
+     * para keys()/elements() como de Iterator para las vistas del mapa.
+     */
+    private class Enumerator<T> implements Enumeration<T>, Iterator<T>
+    {
+        int index = 0;
+        int ultimo = -1;
+        int type;
+
+        Enumerator(int type) {
+            this.type = type;
+        }
+
+        public boolean hasMoreElements() {
+            int i = siguiente(index);
+
+            if (i < 0) return false;
+
+            index = i;
+            return true;
+        }
+
+        public T nextElement() {
+            if (!hasMoreElements())
+                throw new NoSuchElementException();
+
+            ultimo = index++;
+
+            if (type == KEYS) return (T) claveEn(ultimo);
+            if (type == VALUES) return (T) valorEn(ultimo);
+            return (T) new Entrada((K) claveEn(ultimo), (V) valorEn(ultimo));
+        }
+
+        public boolean hasNext() {
+            return hasMoreElements();
+        }
+
+        public T next() {
+            return nextElement();
+        }
+
+        public void remove() {
+            if (ultimo < 0)
+                throw new IllegalStateException();
+
+            index = quitarEn(ultimo);
+            ultimo = -1;
+        }
+    }
+
+    private class Entrada implements Map.Entry<K, V>
+    {
+        private final K key;
+        private V value;
+
+        Entrada(K key, V value) {
+            this.key = key;
+            this.value = value;
+        }
+
+        public K getKey() {
+            return key;
+        }
+
+        public V getValue() {
+            return value;
+        }
+
+        public V setValue(V value) {
+            V anterior = put(key, value);
+            this.value = value;
+            return anterior;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) return false;
+            Map.Entry<?, ?> e = (Map.Entry<?, ?>) o;
+            return key.equals(e.getKey()) && value.equals(e.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ value.hashCode();
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+}
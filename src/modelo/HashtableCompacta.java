@@ -0,0 +1,390 @@
+package modelo;
+
+import java.util.Map;
+
+/**
+ * Tabla hash compacta que conserva el orden de inserción (al estilo del dict
+ * de CPython). Las entradas se guardan en arreglos densos en el orden en que
+ * fueron insertadas y un índice disperso de enteros (short mientras la tabla
+ * sea chica, int cuando crece) resuelve las colisiones por direccionamiento
+ * abierto apuntando a la posición de cada entrada.
+ * Recorrer keys(), elements() o toString() es secuencial sobre las entradas
+ * vivas, y cada casilla vacía del índice ocupa 2 o 4 bytes en lugar de un
+ * objeto Casilla.
+ * Ni la clave ni el valor pueden ser nulos.
+ *
+ * @author Franco Bacinello
+ * @param <K>
+ * @param <V>
+ */
+public class HashtableCompacta< K, V > extends HashtableAbstracta< K, V >
+{
+    /*
+     * Valores especiales de las casillas del indice.
+     */
+    private static final int VACIO = -1;
+    private static final int BORRADO = -2;
+
+    private static final int TAMANIO_MINIMO_INDICE = 8;
+
+    /*
+     * Entradas densas en orden de insercion. Una entrada borrada queda con
+     * clave null hasta la proxima compactacion.
+     */
+    private Object[] claves;
+    private Object[] valores;
+    private int[] hashes;
+
+    /*
+     * Indice disperso. Solo uno de los dos arreglos esta en uso segun el
+     * tamanio de la tabla.
+     */
+    private short[] indiceCorto;
+    private int[] indiceLargo;
+    private int mascara;
+
+    /*
+     * Cantidad de entradas densas usadas (incluyendo las borradas).
+     */
+    private int usadas;
+    private int count;
+
+    /**
+     * Constructor de la Clase. Construye una tabla vacía con una capacidad
+     * inicial predeterminada (5 entradas).
+     */
+    public HashtableCompacta() {
+        this(5);
+    }
+
+    /**
+     * Constructor de la Clase. Construye una tabla vacía con capacidad para
+     * la cantidad de entradas especificada sin necesidad de redimensionar.
+     * @param initialCapacity cantidad de entradas que la tabla debe poder
+     * almacenar inicialmente.
+     */
+    public HashtableCompacta(int initialCapacity) {
+        init(tamanioIndicePara(initialCapacity));
+    }
+
+    /**
+     * Constructor de la Clase. Construye una tabla con las mismas asignaciones
+     * que el mapa dado, respetando el orden de iteración del mismo.
+     * @param t el mapa cuyas asignaciones son para ser colocadas en este mapa.
+     * @throws NullPointerException - si el mapa especificado es nulo.
+     */
+    public HashtableCompacta(Map<? extends K, ? extends V> t) {
+        this(t.size());
+        putAll(t);
+    }
+
+    /**
+     * Retorna el numero de elementos almacenados en la tabla.
+     * @return el numero de claves en la tabla.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Comprueba si la tabla se encuentra vacia.
+     * @return true si no hay elementos, false en caso contrario.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Retorna el valor para la clave especificada como parametro.
+     * @param key - clave para hallar su valor.
+     * @return el valor correspondiente a la clave, o null si no existe.
+     * @throws NullPointerException - Si la clave es null
+     */
+    public V get(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+
+        int e = buscarEntrada(key);
+
+        return (e < 0) ? null : (V) valores[e];
+    }
+
+    /**
+     * Comprueba si la clave pasada como parametro se encuentra en la tabla.
+     * @param key - clave a buscar.
+     * @return true si la clave existe en la tabla, caso contrario false.
+     * @throws NullPointerException - si la clave es nula.
+     */
+    public boolean containsKey(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+
+        return buscarEntrada(key) >= 0;
+    }
+
+    /**
+     * Comprueba si el valor pasado como parametro se encuentra en la tabla.
+     * Solo se recorren las entradas densas.
+     * @param value - valor a buscar.
+     * @return true si el valor se encuentra en la tabla, caso contrario false.
+     * @throws NullPointerException - si el valor es nulo.
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+
+        for (int e = 0; e < usadas; e++) {
+            if (claves[e] != null && valores[e].equals(value)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Inserta un objeto con la clave especificada como parámetro. Si la clave
+     * es nueva se agrega al final de las entradas densas; si ya existía se
+     * sobrescribe su valor sin cambiar su posición en el orden.
+     * @param key - clave de la tabla
+     * @param value - objeto a insertar
+     * @return el valor anterior de la clave, o null si no tenía uno.
+     * @throws NullPointerException - si la clave o el valor son nulos.
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+
+        int hash = key.hashCode();
+        int i = hash & mascara;
+        int perturb = hash;
+        int libre = -1;
+
+        /*
+         * Recorremos la secuencia de sondeo hasta una casilla vacia,
+         * recordando la primera casilla borrada para reutilizarla.
+         */
+        while (true) {
+            int e = leerIndice(i);
+
+            if (e == VACIO) break;
+
+            if (e == BORRADO) {
+                if (libre < 0) libre = i;
+            } else if (hashes[e] == hash && claves[e].equals(key)) {
+                V anterior = (V) valores[e];
+                valores[e] = value;
+                return anterior;
+            }
+
+            perturb >>>= 5;
+            i = (5 * i + perturb + 1) & mascara;
+        }
+
+        /*
+         * Si no hay lugar al final de las entradas densas, redimensionamos
+         * (y compactamos las borradas) y buscamos de nuevo la casilla.
+         */
+        if (usadas == claves.length) {
+            rehash();
+            agregarEntrada(hash, key, value, buscarCasillaLibre(hash));
+        } else {
+            agregarEntrada(hash, key, value, (libre >= 0) ? libre : i);
+        }
+        return null;
+    }
+
+    /**
+     * Elimina la clave (y su valor correspondiente) de la tabla.
+     * La entrada densa queda marcada como borrada hasta el próximo rehash.
+     * @param key - clave que debe ser eliminada
+     * @return el valor que tenía la clave, o null si no tenía asignación.
+     * @throws NullPointerException - Si la clave es nula.
+     */
+    public V remove(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+
+        int i = buscarCasilla(key);
+
+        if (i < 0) return null;
+
+        int e = leerIndice(i);
+        V anterior = (V) valores[e];
+
+        escribirIndice(i, BORRADO);
+        borrarEntrada(e);
+        return anterior;
+    }
+
+    /**
+     * Elimina todos los elementos de la tabla, manteniendo su capacidad.
+     */
+    public void clear() {
+        init(mascara + 1);
+    }
+
+    /**
+     * Busca la entrada densa de la clave.
+     * @return la posición de la entrada, o -1 si la clave no está.
+     */
+    private int buscarEntrada(Object key) {
+        int i = buscarCasilla(key);
+        return (i < 0) ? -1 : leerIndice(i);
+    }
+
+    /**
+     * Busca la casilla del índice que apunta a la entrada de la clave.
+     * Las casillas borradas no cortan la búsqueda, solo las vacías.
+     * @return la casilla del índice, o -1 si la clave no está.
+     */
+    private int buscarCasilla(Object key) {
+        int hash = key.hashCode();
+        int i = hash & mascara;
+        int perturb = hash;
+
+        while (true) {
+            int e = leerIndice(i);
+
+            if (e == VACIO) return -1;
+
+            if (e != BORRADO && hashes[e] == hash && claves[e].equals(key))
+                return i;
+
+            perturb >>>= 5;
+            i = (5 * i + perturb + 1) & mascara;
+        }
+    }
+
+    /**
+     * Busca la primera casilla vacía o borrada para el hash dado. Se usa
+     * cuando se sabe que la clave no está en la tabla.
+     */
+    private int buscarCasillaLibre(int hash) {
+        int i = hash & mascara;
+        int perturb = hash;
+
+        while (leerIndice(i) >= 0) {
+            perturb >>>= 5;
+            i = (5 * i + perturb + 1) & mascara;
+        }
+        return i;
+    }
+
+    private void agregarEntrada(int hash, Object key, Object value, int casilla) {
+        claves[usadas] = key;
+        valores[usadas] = value;
+        hashes[usadas] = hash;
+        escribirIndice(casilla, usadas);
+        usadas++;
+        count++;
+    }
+
+    private void borrarEntrada(int e) {
+        claves[e] = null;
+        valores[e] = null;
+        count--;
+    }
+
+    /**
+     * Redimensiona la tabla para el doble de las entradas vivas y compacta
+     * las entradas densas descartando las borradas. Como el índice se
+     * reconstruye desde cero, desaparecen también las casillas borradas.
+     */
+    protected void rehash() {
+        Object[] viejasClaves = claves;
+        Object[] viejosValores = valores;
+        int[] viejosHashes = hashes;
+        int viejasUsadas = usadas;
+
+        init(tamanioIndicePara(count * 2));
+
+        for (int e = 0; e < viejasUsadas; e++) {
+            if (viejasClaves[e] != null) {
+                int hash = viejosHashes[e];
+                agregarEntrada(hash, viejasClaves[e], viejosValores[e], buscarCasillaLibre(hash));
+            }
+        }
+    }
+
+    /**
+     * Método Helper de los constructores, clear() y rehash() que crea los
+     * arreglos vacíos para un índice del tamaño indicado. Las entradas densas
+     * tienen 2/3 del tamaño del índice, que es el factor de carga máximo.
+     */
+    private void init(int tamanioIndice) {
+        int capacidad = capacidadPara(tamanioIndice);
+
+        claves = new Object[capacidad];
+        valores = new Object[capacidad];
+        hashes = new int[capacidad];
+
+        /*
+         * Mientras las posiciones de las entradas entren en un short usamos
+         * un indice de 2 bytes por casilla.
+         */
+        if (capacidad <= Short.MAX_VALUE) {
+            indiceCorto = new short[tamanioIndice];
+            indiceLargo = null;
+            for (int i = 0; i < tamanioIndice; i++) indiceCorto[i] = VACIO;
+        } else {
+            indiceLargo = new int[tamanioIndice];
+            indiceCorto = null;
+            for (int i = 0; i < tamanioIndice; i++) indiceLargo[i] = VACIO;
+        }
+
+        mascara = tamanioIndice - 1;
+        usadas = 0;
+        count = 0;
+    }
+
+    private int leerIndice(int i) {
+        return (indiceCorto != null) ? indiceCorto[i] : indiceLargo[i];
+    }
+
+    private void escribirIndice(int i, int e) {
+        if (indiceCorto != null) indiceCorto[i] = (short) e;
+        else indiceLargo[i] = e;
+    }
+
+    /**
+     * Calcula la menor potencia de 2 de casillas del índice que permite
+     * almacenar la cantidad de entradas pedida.
+     */
+    private static int tamanioIndicePara(int entradas) {
+        int tamanio = TAMANIO_MINIMO_INDICE;
+
+        while (capacidadPara(tamanio) < entradas) tamanio *= 2;
+
+        return tamanio;
+    }
+
+    private static int capacidadPara(int tamanioIndice) {
+        return (tamanioIndice / 3) * 2;
+    }
+
+    /*
+     * Posiciones para HashtableAbstracta: las entradas densas, en orden de
+     * insercion.
+     */
+    @Override
+    int siguiente(int desde) {
+        for (int e = desde; e < usadas; e++) {
+            if (claves[e] != null) return e;
+        }
+        return -1;
+    }
+
+    @Override
+    Object claveEn(int e) {
+        return claves[e];
+    }
+
+    @Override
+    Object valorEn(int e) {
+        return valores[e];
+    }
+
+    @Override
+    int quitarEn(int e) {
+        remove(claves[e]);
+        return e + 1;
+    }
+}
@@ -0,0 +1,574 @@
+package modelo;
+
+import java.util.Map;
+
+/**
+ * Tabla hash por direccionamiento abierto con cuckoo hashing.
+ * Cada clave tiene exactamente dos cubetas posibles (una por cada función
+ * hash), por lo que get() y containsKey() revisan como máximo dos cubetas más
+ * un pequeño stash, sin importar el factor de carga.
+ * Si muchas claves comparten el mismo hashCode() no hay semilla que las
+ * separe; en ese caso el stash crece y se recorre linealmente, como lo haría
+ * el sondeo de HashtableOwner.
+ * Las cubetas pueden ser de 1 casilla (cuckoo clásico) o de 4 casillas
+ * (bucketizado). El hashCode() de cada casilla se guarda en un int[] aparte,
+ * contiguo por cubeta: una búsqueda compara primero esos hashes y solo lee la
+ * clave (llamando a equals()) y el valor de las casillas cuyo hash coincide.
+ * Ni la clave ni el valor pueden ser nulos.
+ *
+ * @author Franco Bacinello
+ * @param <K>
+ * @param <V>
+ */
+public class HashtableCuckoo< K, V > extends HashtableAbstracta< K, V >
+{
+    /*
+     * Cantidad maxima de desplazamientos en una insercion antes de considerar
+     * que hay un ciclo.
+     */
+    private static final int MAX_DESPLAZAMIENTOS = 64;
+
+    /*
+     * Cantidad inicial de casillas del stash donde van las claves que no
+     * pudieron ubicarse por un ciclo de desplazamientos.
+     */
+    private static final int TAMANIO_STASH = 4;
+
+    /*
+     * Casillas de la tabla: la clave de la casilla i esta en tabla[2*i] y su
+     * valor en tabla[2*i+1]. La cubeta b abarca las casillas
+     * b*casillasPorCubeta .. (b+1)*casillasPorCubeta-1.
+     */
+    private Object[] tabla;
+
+    /*
+     * hashCode() de la clave de cada casilla, en paralelo con la tabla: el hash
+     * de la casilla i esta en hashes[i]. Se compara antes de equals().
+     */
+    private int[] hashes;
+
+    /*
+     * Stash con el mismo formato clave/valor que la tabla. Cuando llega a
+     * umbralStash entradas se rehashea con nuevas semillas; si aun asi no se
+     * vacia (claves con el mismo hashCode()) el umbral se duplica y el stash
+     * sigue creciendo.
+     */
+    private Object[] stash;
+    private int[] hashesStash;
+    private int cantidadStash;
+    private int umbralStash;
+
+    /*
+     * Entrada que quedo sin lugar en el ultimo desplazar() fallido.
+     */
+    private Object claveSinLugar;
+    private Object valorSinLugar;
+    private int hashSinLugar;
+
+    private final int casillasPorCubeta;
+    private int cantidadCubetas;
+    private int mascara;
+
+    private int semilla1;
+    private int semilla2;
+    private int aleatorio;
+
+    private int count;
+    private int umbral;
+    private float loadFactor;
+
+    /**
+     * Constructor de la Clase. Construye una tabla cuckoo vacía con cubetas de
+     * 4 casillas, una capacidad inicial predeterminada (16) y con un factor de
+     * carga de 0.9.
+     */
+    public HashtableCuckoo() {
+        this(16, true);
+    }
+
+    /**
+     * Constructor de la Clase. Construye una tabla cuckoo vacía con la
+     * capacidad inicial especificada y el factor de carga por defecto, que es
+     * 0.9 con cubetas de 4 casillas y 0.45 con cubetas de 1 casilla.
+     * @param initialCapacity cantidad de elementos que la tabla debe poder
+     * almacenar sin redimensionarse.
+     * @param bucketizado true para usar cubetas de 4 casillas, false para
+     * usar cuckoo clásico de 1 casilla por cubeta.
+     */
+    public HashtableCuckoo(int initialCapacity, boolean bucketizado) {
+        this(initialCapacity, bucketizado, bucketizado ? 0.9f : 0.45f);
+    }
+
+    /**
+     * Constructor de la Clase. Construye una tabla cuckoo vacía con la
+     * capacidad inicial y factor de carga especificados.
+     * @param initialCapacity cantidad de elementos que la tabla debe poder
+     * almacenar sin redimensionarse.
+     * @param bucketizado true para usar cubetas de 4 casillas, false para
+     * usar cuckoo clásico de 1 casilla por cubeta.
+     * @param loadFactor factor de carga de la tabla. Debe ser mayor a 0 y
+     * menor a 1. Cualquier otro valor se reemplaza por el valor por defecto.
+     */
+    public HashtableCuckoo(int initialCapacity, boolean bucketizado, float loadFactor) {
+
+        this.casillasPorCubeta = bucketizado ? 4 : 1;
+
+        float porDefecto = bucketizado ? 0.9f : 0.45f;
+        this.loadFactor = ( loadFactor > 0f && loadFactor < 1f ) ? loadFactor : porDefecto;
+
+        this.semilla1 = 0x5bd1e995;
+        this.semilla2 = 0x27d4eb2f;
+        this.aleatorio = 0x9e3779b9;
+
+        init(cubetasPara(initialCapacity));
+    }
+
+    /**
+     * Constructor de la Clase. Construye una tabla cuckoo con las mismas
+     * asignaciones que el mapa dado, con cubetas de 4 casillas.
+     * @param t el mapa cuyas asignaciones son para ser colocadas en este mapa.
+     * @throws NullPointerException - si el mapa especificado es nulo.
+     */
+    public HashtableCuckoo(Map<? extends K, ? extends V> t) {
+        this(t.size(), true);
+        putAll(t);
+    }
+
+    /**
+     * Retorna el numero de elementos almacenados en la tabla.
+     * @return el numero de claves en la tabla.
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Comprueba si la tabla se encuentra vacia.
+     * @return true si no hay elementos, false en caso contrario.
+     */
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /**
+     * Retorna el valor para la clave especificada como parametro.
+     * Solo se revisan las dos cubetas posibles de la clave y el stash.
+     * @param key - clave para hallar su valor.
+     * @return el valor correspondiente a la clave, o null si no existe.
+     * @throws NullPointerException - Si la clave es null
+     */
+    public V get(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+
+        int i = buscar(key);
+
+        return (i < 0) ? null : (V) valorEn(i);
+    }
+
+    /**
+     * Comprueba si la clave pasada como parametro se encuentra en la tabla.
+     * @param key - clave a buscar.
+     * @return true si la clave existe en la tabla, caso contrario false.
+     * @throws NullPointerException - si la clave es nula.
+     */
+    public boolean containsKey(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+
+        return buscar(key) >= 0;
+    }
+
+    /**
+     * Comprueba si el valor pasado como parametro se encuentra en la tabla.
+     * Recorre todas las casillas, por lo que es una operación cara.
+     * @param value - valor a buscar.
+     * @return true si el valor se encuentra en la tabla, caso contrario false.
+     * @throws NullPointerException - si el valor es nulo.
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+
+        for (int i = 1; i < tabla.length; i += 2) {
+            if (tabla[i] != null && tabla[i].equals(value)) return true;
+        }
+        for (int i = 0; i < cantidadStash; i++) {
+            if (stash[2 * i + 1].equals(value)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Inserta un objeto con la clave especificada como parámetro.
+     * Si ninguna de las dos cubetas de la clave tiene lugar se desplaza a
+     * un ocupante hacia su cubeta alternativa, y así sucesivamente hasta
+     * MAX_DESPLAZAMIENTOS veces. Si se detecta un ciclo la clave va al stash,
+     * y si el stash llegó a su umbral se rehashea una vez con nuevas semillas.
+     * @param key - clave de la tabla
+     * @param value - objeto a insertar
+     * @return el valor anterior de la clave, o null si no tenía uno.
+     * @throws NullPointerException - si la clave o el valor son nulos.
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+
+        int i = buscar(key);
+
+        /*
+         * Si la clave ya se encuentra en la tabla sobrescribimos su valor.
+         */
+        if (i >= 0) {
+            V anterior = (V) valorEn(i);
+            escribirValor(i, value);
+            return anterior;
+        }
+
+        if (count >= umbral) rehash(cantidadCubetas * 2);
+
+        insertar(key, value, key.hashCode());
+        count++;
+        return null;
+    }
+
+    /**
+     * Elimina la clave (y su valor correspondiente) de la tabla.
+     * Este método no hace nada si la clave no está en la tabla.
+     * @param key - clave que debe ser eliminada
+     * @return el valor que tenía la clave, o null si no tenía asignación.
+     * @throws NullPointerException - Si la clave es nula.
+     */
+    public V remove(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+
+        int i = buscar(key);
+
+        if (i < 0) return null;
+
+        V anterior = (V) valorEn(i);
+        borrar(i);
+        return anterior;
+    }
+
+    /**
+     * Elimina todos los elementos de la tabla, manteniendo su capacidad.
+     */
+    public void clear() {
+        init(cantidadCubetas);
+        count = 0;
+    }
+
+    /**
+     * Busca la casilla donde se encuentra la clave. Primero se revisa la
+     * cubeta de la primera función hash, luego la de la segunda y por último
+     * el stash (solo si tiene elementos).
+     * @param key clave a buscar.
+     * @return el índice de la casilla, o -1 si la clave no está. Los índices
+     * mayores o iguales a la capacidad de la tabla corresponden al stash.
+     */
+    private int buscar(Object key) {
+        int hc = key.hashCode();
+
+        int i = buscarEnCubeta(cubeta1(hc), key, hc);
+        if (i >= 0) return i;
+
+        i = buscarEnCubeta(cubeta2(hc), key, hc);
+        if (i >= 0) return i;
+
+        for (int s = 0; s < cantidadStash; s++) {
+            if (hashesStash[s] == hc && stash[2 * s].equals(key)) return capacidad() + s;
+        }
+        return -1;
+    }
+
+    private int buscarEnCubeta(int cubeta, Object key, int hc) {
+        int desde = cubeta * casillasPorCubeta;
+        int hasta = desde + casillasPorCubeta;
+
+        for (int i = desde; i < hasta; i++) {
+            /*
+             * Solo miramos la clave si el hash coincide; una casilla vacia
+             * tiene hash 0, por eso igual hay que verificar que no sea null.
+             */
+            if (hashes[i] == hc) {
+                Object k = tabla[2 * i];
+                if (k != null && (k == key || k.equals(key))) return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Inserta una clave que se sabe que no está en la tabla. Si no logra
+     * ubicarla la manda al stash; si el stash llegó a su umbral primero
+     * rehashea una sola vez con nuevas semillas y vuelve a intentar.
+     */
+    private void insertar(Object key, Object value, int hc) {
+        if (desplazar(key, value, hc)) return;
+
+        if (cantidadStash >= umbralStash) {
+            Object k = claveSinLugar;
+            Object v = valorSinLugar;
+            int h = hashSinLugar;
+
+            rehash(cantidadCubetas);
+            if (desplazar(k, v, h)) return;
+        }
+
+        agregarAlStash(claveSinLugar, valorSinLugar, hashSinLugar);
+        claveSinLugar = null;
+        valorSinLugar = null;
+    }
+
+    private void agregarAlStash(Object key, Object value, int hc) {
+        if (cantidadStash == hashesStash.length) {
+            Object[] nuevo = new Object[2 * stash.length];
+            System.arraycopy(stash, 0, nuevo, 0, stash.length);
+            stash = nuevo;
+
+            int[] nuevosHashes = new int[2 * hashesStash.length];
+            System.arraycopy(hashesStash, 0, nuevosHashes, 0, hashesStash.length);
+            hashesStash = nuevosHashes;
+        }
+
+        stash[2 * cantidadStash] = key;
+        stash[2 * cantidadStash + 1] = value;
+        hashesStash[cantidadStash] = hc;
+        cantidadStash++;
+    }
+
+    /**
+     * Intenta ubicar la clave en alguna de sus dos cubetas desplazando
+     * ocupantes hacia su cubeta alternativa. Los hashes guardados evitan
+     * volver a llamar a hashCode() de los desalojados.
+     * @return true si se pudo ubicar; false si se agotaron los
+     * desplazamientos, en cuyo caso la entrada que quedó sin lugar está en
+     * claveSinLugar, valorSinLugar y hashSinLugar.
+     */
+    private boolean desplazar(Object key, Object value, int hc) {
+        int cubeta = cubeta1(hc);
+
+        if (colocarEnCubeta(cubeta, key, value, hc)) return true;
+
+        cubeta = cubeta2(hc);
+
+        for (int n = 0; n < MAX_DESPLAZAMIENTOS; n++) {
+            if (colocarEnCubeta(cubeta, key, value, hc)) return true;
+
+            /*
+             * La cubeta esta llena: sacamos a un ocupante al azar, ponemos
+             * nuestra clave en su lugar y seguimos con el desalojado hacia
+             * su otra cubeta.
+             */
+            int i = cubeta * casillasPorCubeta + siguienteAleatorio() % casillasPorCubeta;
+
+            Object k = tabla[2 * i];
+            Object v = tabla[2 * i + 1];
+            int h = hashes[i];
+            tabla[2 * i] = key;
+            tabla[2 * i + 1] = value;
+            hashes[i] = hc;
+            key = k;
+            value = v;
+            hc = h;
+
+            int c1 = cubeta1(hc);
+            cubeta = (c1 == cubeta) ? cubeta2(hc) : c1;
+        }
+
+        claveSinLugar = key;
+        valorSinLugar = value;
+        hashSinLugar = hc;
+        return false;
+    }
+
+    private boolean colocarEnCubeta(int cubeta, Object key, Object value, int hc) {
+        int desde = cubeta * casillasPorCubeta;
+        int hasta = desde + casillasPorCubeta;
+
+        for (int i = desde; i < hasta; i++) {
+            if (tabla[2 * i] == null) {
+                tabla[2 * i] = key;
+                tabla[2 * i + 1] = value;
+                hashes[i] = hc;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void borrar(int i) {
+        int capacidad = capacidad();
+
+        if (i < capacidad) {
+            tabla[2 * i] = null;
+            tabla[2 * i + 1] = null;
+            hashes[i] = 0;
+        } else {
+            /*
+             * Compactamos el stash moviendo la ultima entrada al hueco.
+             */
+            int s = i - capacidad;
+            int ultima = cantidadStash - 1;
+            stash[2 * s] = stash[2 * ultima];
+            stash[2 * s + 1] = stash[2 * ultima + 1];
+            hashesStash[s] = hashesStash[ultima];
+            stash[2 * ultima] = null;
+            stash[2 * ultima + 1] = null;
+            cantidadStash--;
+        }
+        count--;
+    }
+
+    @Override
+    Object claveEn(int i) {
+        int capacidad = capacidad();
+        return (i < capacidad) ? tabla[2 * i] : stash[2 * (i - capacidad)];
+    }
+
+    @Override
+    Object valorEn(int i) {
+        int capacidad = capacidad();
+        return (i < capacidad) ? tabla[2 * i + 1] : stash[2 * (i - capacidad) + 1];
+    }
+
+    private void escribirValor(int i, Object value) {
+        int capacidad = capacidad();
+        if (i < capacidad) tabla[2 * i + 1] = value;
+        else stash[2 * (i - capacidad) + 1] = value;
+    }
+
+    /**
+     * Reconstruye la tabla con la cantidad de cubetas indicada y nuevas
+     * semillas para las funciones hash. Se hace una sola pasada: lo que no
+     * entra en la tabla va al stash. Si el stash queda con umbralStash
+     * entradas o más (claves con el mismo hashCode(), que ninguna semilla
+     * separa), el umbral se duplica para que el próximo rehash no ocurra
+     * hasta que el stash vuelva a duplicarse.
+     * @param nuevasCubetas cantidad de cubetas de la nueva tabla (potencia de 2).
+     */
+    protected void rehash(int nuevasCubetas) {
+        Object[] viejaTabla = tabla;
+        int[] viejosHashes = hashes;
+        Object[] viejoStash = stash;
+        int[] viejosHashesStash = hashesStash;
+        int viejaCantidadStash = cantidadStash;
+
+        semilla1 = semilla1 * 0x01000193 + 0x7f4a7c15;
+        semilla2 = semilla2 * 0x01000193 + 0x165667b1;
+
+        init(nuevasCubetas);
+        reinsertar(viejaTabla, viejosHashes, viejosHashes.length);
+        reinsertar(viejoStash, viejosHashesStash, viejaCantidadStash);
+
+        umbralStash = Math.max(TAMANIO_STASH, 2 * cantidadStash);
+    }
+
+    /**
+     * Helper de rehash(). Vuelve a ubicar las entradas de un arreglo
+     * clave/valor en la tabla actual sin disparar otro rehash.
+     */
+    private void reinsertar(Object[] entradas, int[] hashesEntradas, int cantidad) {
+        for (int i = 0; i < cantidad; i++) {
+            if (entradas[2 * i] == null) continue;
+
+            if (!desplazar(entradas[2 * i], entradas[2 * i + 1], hashesEntradas[i]))
+                agregarAlStash(claveSinLugar, valorSinLugar, hashSinLugar);
+        }
+        claveSinLugar = null;
+        valorSinLugar = null;
+    }
+
+    /**
+     * Método Helper de los constructores, clear() y rehash() que crea una
+     * tabla vacía con la cantidad de cubetas indicada.
+     */
+    private void init(int cubetas) {
+        cantidadCubetas = cubetas;
+        mascara = cubetas - 1;
+        tabla = new Object[2 * cubetas * casillasPorCubeta];
+        hashes = new int[cubetas * casillasPorCubeta];
+        stash = new Object[2 * TAMANIO_STASH];
+        hashesStash = new int[TAMANIO_STASH];
+        cantidadStash = 0;
+        umbralStash = TAMANIO_STASH;
+        umbral = (int) (capacidad() * loadFactor);
+    }
+
+    /**
+     * Calcula la menor potencia de 2 de cubetas que permite almacenar la
+     * capacidad pedida sin superar el factor de carga.
+     */
+    private int cubetasPara(int initialCapacity) {
+        int casillas = (int) Math.ceil(Math.max(initialCapacity, 1) / loadFactor);
+        int cubetas = 2;
+
+        while (cubetas * casillasPorCubeta < casillas) cubetas *= 2;
+
+        return cubetas;
+    }
+
+    private int capacidad() {
+        return cantidadCubetas * casillasPorCubeta;
+    }
+
+    /**
+     * Primera función hash. Mezcla el hashCode() con la primera semilla y
+     * retorna un índice de cubeta.
+     */
+    private int cubeta1(int hc) {
+        int h = (hc ^ semilla1) * 0x85ebca6b;
+        h ^= h >>> 16;
+        return h & mascara;
+    }
+
+    /**
+     * Segunda función hash. Usa otra semilla y otro multiplicador para que
+     * sea independiente de la primera.
+     */
+    private int cubeta2(int hc) {
+        int h = (hc ^ semilla2) * 0xc2b2ae35;
+        h ^= h >>> 15;
+        return h & mascara;
+    }
+
+    /**
+     * Generador xorshift para elegir a quién desalojar sin crear objetos.
+     */
+    private int siguienteAleatorio() {
+        int x = aleatorio;
+        x ^= x << 13;
+        x ^= x >>> 17;
+        x ^= x << 5;
+        aleatorio = x;
+        return x >>> 1;
+    }
+
+    /*
+     * Posiciones para HashtableAbstracta: primero las casillas de la tabla y
+     * a continuacion las del stash.
+     */
+    @Override
+    int siguiente(int desde) {
+        int capacidad = capacidad();
+
+        for (int i = desde; i < capacidad; i++) {
+            if (tabla[2 * i] != null) return i;
+        }
+        int i = Math.max(desde, capacidad);
+        return (i < capacidad + cantidadStash) ? i : -1;
+    }
+
+    @Override
+    int quitarEn(int i) {
+        borrar(i);
+
+        /*
+         * Si borramos del stash, la ultima entrada se movio al hueco y hay
+         * que volver a visitarlo.
+         */
+        return (i >= capacidad()) ? i : i + 1;
+    }
+}
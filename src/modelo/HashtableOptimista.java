@@ -0,0 +1,496 @@
+package modelo;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Tabla hash por direccionamiento abierto pensada para un solo hilo que
+ * escribe y muchos hilos que leen.
+ * Las lecturas (get, containsKey, size) no toman ningún lock: leen la tabla
+ * con una estampa optimista de un StampedLock y solo reintentan si en el
+ * medio hubo un put(), remove(), clear() o rehash(). Las escrituras se
+ * serializan con el write lock.
+ * Las vistas keySet(), values() y entrySet() y las enumeraciones son copias
+ * tomadas bajo el read lock, no reflejan cambios posteriores y no admiten
+ * modificaciones.
+ * Ni la clave ni el valor pueden ser nulos.
+ *
+ * @author Franco Bacinello
+ * @param <K>
+ * @param <V>
+ */
+public class HashtableOptimista< K, V > implements Map< K, V >
+{
+    /*
+     * Cantidad de lecturas optimistas invalidadas por una escritura que se
+     * toleran antes de tomar el read lock.
+     */
+    private static final int REINTENTOS_OPTIMISTAS = 3;
+
+    /*
+     * Cantidad de veces que un lector cede el procesador esperando a que el
+     * escritor suelte el lock antes de bloquearse en el read lock. Solo
+     * importa si una escritura tarda mucho (por ejemplo un putAll grande).
+     */
+    private static final int MAX_ESPERAS = 1024;
+
+    /*
+     * Marca de casilla borrada (tumba).
+     */
+    private static final Object TUMBA = new Object();
+
+    private final StampedLock lock = new StampedLock();
+
+    /*
+     * Casillas de la tabla: la clave de la casilla i esta en tabla[2*i] y su
+     * valor en tabla[2*i+1]. Los lectores toman la referencia una sola vez,
+     * de modo que un rehash concurrente nunca los hace salir del arreglo.
+     */
+    private Object[] tabla;
+
+    private int count;
+    private int ocupadas;
+    private int umbral;
+    private float loadFactor;
+
+    /**
+     * Constructor de la Clase. Construye una tabla vacía con una capacidad
+     * inicial predeterminada (16) y con un factor de carga de 0.75.
+     */
+    public HashtableOptimista() {
+        this(16, 0.75f);
+    }
+
+    /**
+     * Constructor de la Clase. Construye una tabla vacía con la capacidad
+     * inicial especificada y el factor de carga por defecto, que es 0.75.
+     * @param initialCapacity cantidad de elementos que la tabla debe poder
+     * almacenar sin redimensionarse.
+     */
+    public HashtableOptimista(int initialCapacity) {
+        this(initialCapacity, 0.75f);
+    }
+
+    /**
+     * Constructor de la Clase. Construye una tabla vacía con la capacidad
+     * inicial y factor de carga especificados.
+     * @param initialCapacity cantidad de elementos que la tabla debe poder
+     * almacenar sin redimensionarse.
+     * @param loadFactor factor de carga de la tabla. Debe ser mayor a 0 y
+     * menor a 1. Cualquier otro valor se reemplaza por el valor por defecto
+     * (0.75).
+     */
+    public HashtableOptimista(int initialCapacity, float loadFactor) {
+        this.loadFactor = ( loadFactor > 0f && loadFactor < 1f ) ? loadFactor : 0.75f;
+
+        init(casillasPara(initialCapacity));
+    }
+
+    /**
+     * Constructor de la Clase. Construye una tabla con las mismas asignaciones
+     * que el mapa dado.
+     * @param t el mapa cuyas asignaciones son para ser colocadas en este mapa.
+     * @throws NullPointerException - si el mapa especificado es nulo.
+     */
+    public HashtableOptimista(Map<? extends K, ? extends V> t) {
+        this(t.size(), 0.75f);
+        putAll(t);
+    }
+
+    /**
+     * Retorna el numero de elementos almacenados en la tabla, leído sin lock.
+     * @return el numero de claves en la tabla.
+     */
+    public int size() {
+        long stamp = lock.tryOptimisticRead();
+        int c = count;
+
+        if (lock.validate(stamp)) return c;
+
+        stamp = lock.readLock();
+        try {
+            return count;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Comprueba si la tabla se encuentra vacia.
+     * @return true si no hay elementos, false en caso contrario.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Retorna el valor para la clave especificada como parametro.
+     * La búsqueda se hace sin lock y se valida con la estampa optimista; si
+     * hubo una escritura concurrente se reintenta, y tras
+     * REINTENTOS_OPTIMISTAS lecturas invalidadas se toma el read lock. Si al
+     * llegar hay un escritor activo, se espera cediendo el procesador en vez
+     * de gastar reintentos.
+     * @param key - clave para hallar su valor.
+     * @return el valor correspondiente a la clave, o null si no existe.
+     * @throws NullPointerException - Si la clave es null
+     */
+    public V get(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+
+        int fallos = 0;
+        int esperas = 0;
+
+        while (fallos < REINTENTOS_OPTIMISTAS && esperas < MAX_ESPERAS) {
+            long stamp = lock.tryOptimisticRead();
+
+            /*
+             * Si hay un escritor activo la estampa es 0: esperamos a que
+             * termine sin contar un reintento, porque no llegamos a leer.
+             */
+            if (stamp == 0) {
+                esperas++;
+                Thread.yield();
+                continue;
+            }
+
+            try {
+                Object v = buscarValor(tabla, key);
+                if (lock.validate(stamp)) return (V) v;
+            } catch (RuntimeException exp) {
+                /*
+                 * Una lectura inconsistente puede hacer fallar a equals();
+                 * solo la propagamos si la estampa sigue siendo valida.
+                 */
+                if (lock.validate(stamp)) throw exp;
+            }
+            fallos++;
+        }
+
+        long stamp = lock.readLock();
+        try {
+            return (V) buscarValor(tabla, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Comprueba si la clave pasada como parametro se encuentra en la tabla.
+     * @param key - clave a buscar.
+     * @return true si la clave existe en la tabla, caso contrario false.
+     * @throws NullPointerException - si la clave es nula.
+     */
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Comprueba si el valor pasado como parametro se encuentra en la tabla.
+     * Recorre todas las casillas bajo el read lock.
+     * @param value - valor a buscar.
+     * @return true si el valor se encuentra en la tabla, caso contrario false.
+     * @throws NullPointerException - si el valor es nulo.
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+
+        long stamp = lock.readLock();
+        try {
+            for (int i = 0; i < tabla.length; i += 2) {
+                if (esClave(tabla[i]) && tabla[i + 1].equals(value)) return true;
+            }
+            return false;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public boolean contains(Object value) {
+        return containsValue(value);
+    }
+
+    /**
+     * Inserta un objeto con la clave especificada como parámetro, bajo el
+     * write lock. Las lecturas optimistas en curso serán reintentadas.
+     * @param key - clave de la tabla
+     * @param value - objeto a insertar
+     * @return el valor anterior de la clave, o null si no tenía uno.
+     * @throws NullPointerException - si la clave o el valor son nulos.
+     */
+    public V put(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+
+        long stamp = lock.writeLock();
+        try {
+            return insertar(key, value);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Elimina la clave (y su valor correspondiente) de la tabla, bajo el
+     * write lock.
+     * @param key - clave que debe ser eliminada
+     * @return el valor que tenía la clave, o null si no tenía asignación.
+     * @throws NullPointerException - Si la clave es nula.
+     */
+    public V remove(Object key) {
+        if (key == null)
+            throw new NullPointerException();
+
+        long stamp = lock.writeLock();
+        try {
+            int i = buscarCasilla(tabla, key);
+
+            if (i < 0) return null;
+
+            V anterior = (V) tabla[i + 1];
+            tabla[i] = TUMBA;
+            tabla[i + 1] = null;
+            count--;
+            return anterior;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Copia todas las asignaciones del mapa especificado a esta tabla tomando
+     * el write lock una sola vez.
+     * @param m asignaciones a almacenar en esta tabla.
+     */
+    public void putAll(Map<? extends K, ? extends V> m) {
+        long stamp = lock.writeLock();
+        try {
+            for (Map.Entry<? extends K, ? extends V> e : m.entrySet()) {
+                if (e.getKey() == null || e.getValue() == null)
+                    throw new NullPointerException();
+
+                insertar(e.getKey(), e.getValue());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Elimina todos los elementos de la tabla, manteniendo su capacidad.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            init(tabla.length / 2);
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public Enumeration<V> elements() {
+        return Collections.enumeration(values());
+    }
+
+    public Enumeration<K> keys() {
+        return Collections.enumeration(keySet());
+    }
+
+    public Set<K> keySet() {
+        return copia().keySet();
+    }
+
+    public Collection<V> values() {
+        return copia().values();
+    }
+
+    public Set<Entry<K, V>> entrySet() {
+        return copia().entrySet();
+    }
+
+    /**
+     * Compara el objeto especificado con este mapa.
+     * @param o
+     * @return true si o es un Map con las mismas asignaciones.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == this) return true;
+        if (!(o instanceof Map)) return false;
+
+        return copia().equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return copia().hashCode();
+    }
+
+    /**
+     * Obtiene y devuelve una cadena con todos los elementos de la tabla.
+     * @return la cadena con todos los elementos que hay.
+     */
+    @Override
+    public String toString() {
+        Map<K, V> m = copia();
+
+        if (m.isEmpty()) return "No hay elementos en la Hash Table ...";
+
+        StringBuilder cadena = new StringBuilder();
+
+        for (Entry<K, V> e : m.entrySet()) {
+            cadena.append(e.getKey()).append('=').append(e.getValue()).append(", ");
+        }
+        return cadena.toString();
+    }
+
+    /**
+     * Toma una copia inmutable de las asignaciones bajo el read lock.
+     */
+    private Map<K, V> copia() {
+        long stamp = lock.readLock();
+        try {
+            Map<K, V> m = new LinkedHashMap<K, V>(count * 2);
+
+            for (int i = 0; i < tabla.length; i += 2) {
+                if (esClave(tabla[i])) m.put((K) tabla[i], (V) tabla[i + 1]);
+            }
+            return Collections.unmodifiableMap(m);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Busca el valor de la clave en la tabla indicada. Puede ejecutarse sin
+     * lock: a lo sumo recorre todas las casillas una vez, así que termina
+     * aunque la tabla cambie en el medio.
+     */
+    private static Object buscarValor(Object[] t, Object key) {
+        int i = buscarCasilla(t, key);
+        return (i < 0) ? null : t[i + 1];
+    }
+
+    /**
+     * Sondeo lineal desde el índice de la clave hasta encontrarla o llegar a
+     * una casilla vacía.
+     * @return el índice de la clave en el arreglo, o -1 si no está.
+     */
+    private static int buscarCasilla(Object[] t, Object key) {
+        int casillas = t.length / 2;
+        int i = indice(key.hashCode(), casillas - 1);
+
+        for (int n = 0; n < casillas; n++) {
+            Object k = t[2 * i];
+
+            if (k == null) return -1;
+            if (k != TUMBA && (k == key || k.equals(key))) return 2 * i;
+
+            i = (i + 1) & (casillas - 1);
+        }
+        return -1;
+    }
+
+    /**
+     * Inserta o sobrescribe una clave. Debe llamarse con el write lock tomado.
+     */
+    private V insertar(K key, V value) {
+        int i = buscarCasilla(tabla, key);
+
+        if (i >= 0) {
+            V anterior = (V) tabla[i + 1];
+            tabla[i + 1] = value;
+            return anterior;
+        }
+
+        if (ocupadas >= umbral) rehash();
+
+        colocar(tabla, key, value);
+        count++;
+        return null;
+    }
+
+    /**
+     * Ubica una clave nueva en la primera casilla vacía o tumba. Si reutiliza
+     * una tumba no aumenta la cantidad de casillas ocupadas.
+     */
+    private void colocar(Object[] t, Object key, Object value) {
+        int mascara = t.length / 2 - 1;
+        int i = indice(key.hashCode(), mascara);
+
+        while (esClave(t[2 * i])) i = (i + 1) & mascara;
+
+        if (t[2 * i] == null) ocupadas++;
+
+        /*
+         * Son escrituras comunes sobre el arreglo: un lector optimista puede
+         * verlas en cualquier orden (por ejemplo la clave nueva con el valor
+         * todavia en null). Lo que hace correcta a la lectura es que validate()
+         * rechaza la estampa, porque esto corre con el write lock tomado; el
+         * orden de las escrituras no garantiza nada.
+         */
+        t[2 * i + 1] = value;
+        t[2 * i] = key;
+    }
+
+    /**
+     * Redimensiona la tabla al doble de lo necesario para los elementos vivos,
+     * descartando las tumbas. Debe llamarse con el write lock tomado; la
+     * tabla nueva se completa antes de publicarla.
+     */
+    protected void rehash() {
+        Object[] vieja = tabla;
+        Object[] nueva = new Object[2 * casillasPara(count * 2)];
+
+        ocupadas = 0;
+
+        for (int i = 0; i < vieja.length; i += 2) {
+            if (esClave(vieja[i])) colocar(nueva, vieja[i], vieja[i + 1]);
+        }
+
+        tabla = nueva;
+        umbral = (int) (nueva.length / 2 * loadFactor);
+    }
+
+    /**
+     * Método Helper de los constructores y de clear() que crea una tabla
+     * vacía con la cantidad de casillas indicada.
+     */
+    private void init(int casillas) {
+        tabla = new Object[2 * casillas];
+        count = 0;
+        ocupadas = 0;
+        umbral = (int) (casillas * loadFactor);
+    }
+
+    /**
+     * Calcula la menor potencia de 2 de casillas que permite almacenar la
+     * capacidad pedida sin superar el factor de carga.
+     */
+    private int casillasPara(int initialCapacity) {
+        int casillas = 16;
+
+        while (casillas * loadFactor <= initialCapacity) casillas *= 2;
+
+        return casillas;
+    }
+
+    private static boolean esClave(Object k) {
+        return k != null && k != TUMBA;
+    }
+
+    /**
+     * Función hash. Mezcla los bits altos del hashCode() y retorna un índice
+     * de casilla.
+     */
+    private static int indice(int hc, int mascara) {
+        int h = hc * 0x9e3779b9;
+        return (h ^ (h >>> 16)) & mascara;
+    }
+}
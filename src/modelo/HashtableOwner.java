@@ -220,26 +220,16 @@ public class HashtableOwner< K, V > implements Map< K, V >
          */
         if ( proportionOccupation() > loadFactor ) rehash();
 
-        int indice = hashCode(key);
-        int j = 1;
-        int aux = indice;
-
         /*
-         * Si la casilla i en donde queremos entrar tiene estado 2 (ocupada)
-         y la clave que tiene es distinta a la que vamos a insertar
-         entonces seguimos a la i+(j^1), i+(j^2), ..., i+(j^n) con j = 1,2,..,n
-         hasta encontrar una desocupada.
          * Nota: si la clave ya se encuentra en la table entonces sobrescribimos su valor
          */
-        while (items[aux].getState() == STATE_OCUPADO &&
-                !( items[aux].getKey().equals(key) )) {
-            aux = indice + (j*j);
-            j++;
+        int aux = ubicarParaInsertar(key);
 
-            if ( aux >= items.length )
-                aux = 0;
-            //aux = aux % items.length;
-        }
+        /*
+         * Guardamos el valor anterior antes de sobreescribir. Si la casilla
+         * estaba abierta o era una tumba su valor es null.
+         */
+        V anterior = items[aux].getValue();
 
         /*
         Sobreescribimos.
@@ -249,10 +239,10 @@ public class HashtableOwner< K, V > implements Map< K, V >
         items[aux].setValue(value);
 
         /*
-         * Retornamos el objeto que se encuentra en al anterior indice del objeto
-         * nuevo insertado. Caso de no a ver ninguno devuelve null.
+         * Retornamos el objeto que tenia la clave. Caso de no a ver ninguno
+         * devuelve null.
          */
-        return items[aux - 1].getValue();
+        return anterior;
     }
 
     /**
@@ -302,29 +292,11 @@ public class HashtableOwner< K, V > implements Map< K, V >
         if ( key == null ) throw new NullPointerException();
 
         /*
-         * Si no hay elementos en la hash table retornar null.
+         * Seguimos la misma secuencia de sondeo que put().
          */
-        if ( size() ==  0 ) return false;
-        
-        int indice = hashCode(key);
-        
-        boolean b = false;
+        int aux = ubicar(items, key);
 
-        while ( !b ) {
-            if (!( items[indice].getKey().equals(key)))
-                indice++;
-            else {
-                b = true;
-                break;
-            }
-
-           /*
-            * Si nos pasamos, volvemos al principio del arreglo.
-            */
-           if(indice >= items.length)
-               indice = 0;
-        }
-        return b;
+        return aux >= 0 && items[aux].getState() == STATE_OCUPADO;
     }
 
     /**
@@ -392,29 +364,17 @@ public class HashtableOwner< K, V > implements Map< K, V >
         if (key == null)
             throw new NullPointerException();
 
-        int indice = hashCode(key);
-        int j = 1;
-        int aux = indice;
-
         /*
-         * Si la casilla i en donde queremos buscar tiene estado 2 (ocupada)
-         y la clave que buscamos es distinta a la que el indice te llevo
-         entonces seguimos a la i+(j^1), i+(j^2), ..., i+(j^n) con j = 1,2,..,n
-         hasta encontrar la clave deseada.
+         * Seguimos la misma secuencia de sondeo que put() hasta encontrar la
+         * clave deseada o una casilla no ocupada.
          */
-        while ( items[aux].getState() == STATE_OCUPADO &&
-                !( items[aux].getKey().equals(key) ) ) {
-            aux = indice + (j*j);
-            j++;
-
-            if ( aux > items.length )
-                aux = 0;
-        }
+        int aux = ubicar(items, key);
 
         /*
-         * Retornamos el objeto con la clave indicada.
+         * Retornamos el objeto con la clave indicada. Las casillas libres y
+         * las tumbas tienen valor null.
          */
-        return items[aux].getValue();
+        return (aux < 0) ? null : items[aux].getValue();
     }
 
     /**
@@ -432,40 +392,21 @@ public class HashtableOwner< K, V > implements Map< K, V >
         if ( key == null ) throw new NullPointerException();
 
         /*
-         * Si no hay elementos en la hash table retornar null.
+         * Seguimos la misma secuencia de sondeo que put().
          */
-        if ( size() ==  0 ) return null;
+        int aux = ubicar(items, key);
 
-        int indice = hashCode(key);
-        
-        boolean b = false;
-
-        while ( !b ) {
-            if (!( items[indice].getKey().equals(key)))
-                indice++;
-            else {
-                b = true;
-                break;
-            }
-
-           /*
-            * Si nos pasamos, volvemos al principio del arreglo.
-            */
-           if(indice > items.length)
-               indice = 0;
-       }
-
-       /*
-        * Si b es igual a true -> Encontramos el objeto a borrar.
-        */
-       if ( b ) {
-           V temp = items[indice].getValue(); //Recuperamos el objeto
-           items[indice].setState(STATE_TUMBA);
-           items[indice].setKey(null);
-           items[indice].setValue(null);
-           return temp;
-       }
-       return null;
+        /*
+         * Si la casilla esta ocupada -> Encontramos el objeto a borrar.
+         */
+        if ( aux >= 0 && items[aux].getState() == STATE_OCUPADO ) {
+            V temp = items[aux].getValue(); //Recuperamos el objeto
+            items[aux].setState(STATE_TUMBA);
+            items[aux].setKey(null);
+            items[aux].setValue(null);
+            return temp;
+        }
+        return null;
     }
 
     /**
@@ -534,40 +475,49 @@ public class HashtableOwner< K, V > implements Map< K, V >
          Creamos un tabla temporal con tamaño mayor al 50 % que el tabla anterior
          y con numero primero siguiente.
          */
-        Casilla[] temp = new Casilla[nextPrimo((int)(items.length * 1.5))];
-        int j=1;
-        int aux;
+        redimensionar((int)(items.length * 1.5));
+    }
 
-        /*
-         * Inicializamos la nueva tabla...
-         */
-        for ( int i=0; i<temp.length; i++ )
-            temp[i] = new Casilla(STATE_OPEN, null, null);
+    /**
+     * Reconstruye la tabla con al menos la cantidad de casillas indicada (el
+     * numero primo siguiente) en una sola pasada. Lo usa rehash() y
+     * HashtableSerializador para crecer de una vez al tamaño que necesita.
+     * @param casillas cantidad minima de casillas de la nueva tabla.
+     */
+    void redimensionar(int casillas) {
+        int tamanio = nextPrimo(casillas);
+        Casilla[] temp = null;
+        int aux;
+        boolean b = false;
 
-        /*
-         * Re Hashing
-         */
-        for ( int i=0; i<items.length; i++ ) {
-            Casilla casilla = items[i];
-            if ( casilla.getValue() != null ) {
-                /*
-                HashCode.
-                */
-                int indice = casilla.getKey().hashCode() % temp.length;
-                
-                aux = indice;
-
-                while ( temp[aux].getState() == STATE_OCUPADO ) {
-                    aux = indice + (j*j);
-                    j++;
-
-                    if ( aux > temp.length )
-                        aux = 0;
+        while ( !b ) {
+            temp = new Casilla[tamanio];
+
+            /*
+             * Inicializamos la nueva tabla...
+             */
+            for ( int i=0; i<temp.length; i++ )
+                temp[i] = new Casilla(STATE_OPEN, null, null);
+
+            /*
+             * Re Hashing. Si alguna clave no encuentra casilla libre en su
+             * secuencia de sondeo, agrandamos la tabla nueva y empezamos de nuevo.
+             */
+            b = true;
+            for ( int i=0; i<items.length && b; i++ ) {
+                Casilla casilla = items[i];
+                if ( casilla.getState() == STATE_OCUPADO ) {
+                    aux = ubicar(temp, casilla.getKey());
+
+                    if ( aux < 0 ) {
+                        b = false;
+                        tamanio = nextPrimo((int)(tamanio * 1.5));
+                    } else {
+                        temp[aux].setState(STATE_OCUPADO);
+                        temp[aux].setKey(casilla.getKey());
+                        temp[aux].setValue(casilla.getValue());
+                    }
                 }
-
-                temp[aux].setState(STATE_OCUPADO);
-                temp[aux].setKey(casilla.getKey());
-                temp[aux].setValue(casilla.getValue());
             }
         }
         /*
@@ -582,17 +532,18 @@ public class HashtableOwner< K, V > implements Map< K, V >
     * @return devuelve true si es primo o false en caso contrario.
     */
     private boolean isPrimo(int n) {
-        int count = 0;
         boolean b = true;
 
-        for (int i = 1; i <= n; i++) {
-            if ( (n % i) == 0 ) count++;
-        }
-
         /*
-         * Si se tiene mas de 2 divisiones entonces no corresponde a un numero primo.
+         * Alcanza con buscar divisores hasta la raiz de n: si n tiene un
+         * divisor mayor, tambien tiene uno menor.
          */
-        if (count > 2) b = false;
+        for (int i = 2; (long) i * i <= n; i++) {
+            if ( (n % i) == 0 ) {
+                b = false;
+                break;
+            }
+        }
 
         return b;
     }
@@ -623,9 +574,94 @@ public class HashtableOwner< K, V > implements Map< K, V >
     * @return el índice para entrar en la tabla items.
     */
     public int hashCode(Object k){
-        int m = items.length;
-        int hc = k.hashCode();
-        return hc % m;
+        return indice(k, items.length);
+    }
+
+    /**
+    * Helper de hashCode(Object) y de rehash(). Descarta el bit de signo del
+    * hashCode() para que el índice nunca sea negativo.
+    * @param k es el objeto en el cual le extraeremos el valor hashCode.
+    * @param m es el tamaño de la tabla.
+    * @return el índice para entrar en una tabla de tamaño m.
+    */
+    private int indice(Object k, int m) {
+        return (k.hashCode() & 0x7fffffff) % m;
+    }
+
+    /**
+     * Busca la casilla de la clave siguiendo la agrupacion secundaria:
+     * i, i+(1^2), i+(2^2), ..., i+(n^2) (modulo el tamaño de la tabla),
+     * hasta encontrar la clave o una casilla abierta. Las tumbas no cortan la
+     * busqueda, pero se recuerda la primera para reutilizarla al insertar.
+     * Se prueban a lo sumo tantas casillas como tenga la tabla.
+     * @param tabla la tabla donde buscar.
+     * @param key la clave a ubicar.
+     * @return el índice de la casilla ocupada con la clave; si la clave no
+     * esta, el de la primera tumba o casilla abierta de su secuencia de
+     * sondeo; o -1 si no hay ninguna.
+     */
+    private int ubicar(Casilla[] tabla, Object key) {
+        int indice = indice(key, tabla.length);
+        int primeraTumba = -1;
+        int aux = indice;
+
+        for ( int j = 1; j <= tabla.length; j++ ) {
+            int state = tabla[aux].getState();
+
+            if ( state == STATE_OPEN )
+                return (primeraTumba >= 0) ? primeraTumba : aux;
+
+            if ( state == STATE_OCUPADO && tabla[aux].getKey().equals(key) )
+                return aux;
+
+            if ( state == STATE_TUMBA && primeraTumba < 0 )
+                primeraTumba = aux;
+
+            aux = (int) ((indice + (long) j * j) % tabla.length);
+        }
+        return primeraTumba;
+    }
+
+    /**
+     * Helper de put() y cargar(). Ubica la casilla donde insertar la clave y,
+     * si su secuencia de sondeo no tiene lugar libre, agranda la tabla.
+     */
+    private int ubicarParaInsertar(Object key) {
+        int aux = ubicar(items, key);
+
+        while ( aux < 0 ) {
+            rehash();
+            aux = ubicar(items, key);
+        }
+        return aux;
+    }
+
+    /**
+     * Inserta una clave sin comprobar el factor de carga. Lo usa
+     * HashtableSerializador al importar en una tabla ya dimensionada para la
+     * cantidad de elementos del encabezado, por lo que no llega a llamar a
+     * rehash().
+     * @param key - clave de la tabla
+     * @param value - objeto a insertar
+     */
+    void cargar(K key, V value) {
+        if (value == null || key == null)
+            throw new NullPointerException();
+
+        int aux = ubicarParaInsertar(key);
+
+        items[aux].setState(STATE_OCUPADO);
+        items[aux].setKey(key);
+        items[aux].setValue(value);
+    }
+
+    /**
+     * Retorna la cantidad de casillas de la tabla. Lo usa HashtableSerializador
+     * para saber cuándo agrandar la tabla mientras importa.
+     * @return el tamaño del arreglo items.
+     */
+    int capacidad() {
+        return items.length;
     }
 
     /**
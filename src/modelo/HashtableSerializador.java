@@ -0,0 +1,242 @@
+package modelo;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ConcurrentModificationException;
+import java.util.Enumeration;
+import java.util.Map;
+
+/**
+ * Exporta e importa tablas hash en un formato binario compacto, sin pasar por
+ * la serialización de Java. El formato es:
+ * <pre>
+ *   int  MAGICO
+ *   byte VERSION
+ *   int  cantidad de entradas
+ *   cantidad x (clave, valor) escritos con los codecs
+ * </pre>
+ * Las entradas se escriben y leen de a una, sin armar copias intermedias de
+ * la tabla.
+ *
+ * @author Franco Bacinello
+ * @param <K>
+ * @param <V>
+ */
+public class HashtableSerializador< K, V >
+{
+    /*
+     * "HTXA" en ASCII.
+     */
+    private static final int MAGICO = 0x48545841;
+    private static final byte VERSION = 1;
+
+    private static final int TAMANIO_BUFFER = 64 * 1024;
+
+    /*
+     * Cuando no se conoce el tamaño de la entrada, cantidad maxima de
+     * entradas para la que se predimensiona la tabla a partir del
+     * encabezado. Si hay mas, la tabla crece de a pasos geometricos a medida
+     * que llegan las entradas, de modo que un encabezado corrupto no reserva
+     * memoria por entradas que no existen.
+     */
+    private static final int MAX_PREDIMENSIONADO = 1 << 18;
+
+    /*
+     * Capacidad maxima con la que se crea o agranda la tabla importada.
+     */
+    private static final int MAX_CASILLAS = 1 << 30;
+
+    private final Codec<K> codecClave;
+    private final Codec<V> codecValor;
+
+    /**
+     * Constructor de la Clase.
+     * @param codecClave codec para las claves.
+     * @param codecValor codec para los valores.
+     * @throws NullPointerException - si alguno de los codecs es nulo.
+     */
+    public HashtableSerializador(Codec<K> codecClave, Codec<V> codecValor) {
+        if (codecClave == null || codecValor == null)
+            throw new NullPointerException();
+
+        this.codecClave = codecClave;
+        this.codecValor = codecValor;
+    }
+
+    /**
+     * Escribe todas las asignaciones del mapa en la salida.
+     * Las tablas HashtableOwner se recorren con keys()/elements().
+     * @param m mapa a exportar.
+     * @param out salida donde escribir.
+     * @throws IOException - si falla la escritura.
+     * @throws ConcurrentModificationException - si el mapa cambia de tamaño
+     * mientras se exporta.
+     */
+    public void exportar(Map<K, V> m, DataOutput out) throws IOException {
+        int cantidad = m.size();
+
+        out.writeInt(MAGICO);
+        out.writeByte(VERSION);
+        out.writeInt(cantidad);
+
+        int escritas = 0;
+
+        if (m instanceof HashtableOwner) {
+            HashtableOwner<K, V> ht = (HashtableOwner<K, V>) m;
+
+            /*
+             * Ambas enumeraciones recorren las casillas en el mismo orden.
+             */
+            Enumeration<K> claves = ht.keys();
+            Enumeration<V> valores = ht.elements();
+
+            while (claves.hasMoreElements() && valores.hasMoreElements()) {
+                escribirEntrada(out, claves.nextElement(), valores.nextElement(), ++escritas, cantidad);
+            }
+        } else {
+            for (Map.Entry<K, V> e : m.entrySet()) {
+                escribirEntrada(out, e.getKey(), e.getValue(), ++escritas, cantidad);
+            }
+        }
+
+        if (escritas != cantidad)
+            throw new ConcurrentModificationException();
+    }
+
+    /**
+     * Escribe todas las asignaciones del mapa en un canal, con un buffer
+     * intermedio. El canal no se cierra.
+     * @param m mapa a exportar.
+     * @param canal canal donde escribir.
+     * @throws IOException - si falla la escritura.
+     */
+    public void exportar(Map<K, V> m, WritableByteChannel canal) throws IOException {
+        DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(canal), TAMANIO_BUFFER));
+
+        exportar(m, (DataOutput) out);
+        out.flush();
+    }
+
+    /**
+     * Lee una tabla escrita con exportar(). Como no se sabe cuántos datos
+     * quedan en la entrada, la tabla se predimensiona para la cantidad del
+     * encabezado solo hasta MAX_PREDIMENSIONADO entradas; si hay más, crece
+     * en pocos pasos (cuadruplicando las entradas leídas) a medida que
+     * llegan. Si se conoce un máximo, conviene usar
+     * importar(DataInput, int), que predimensiona de una vez.
+     * @param in entrada de donde leer.
+     * @return la tabla con las asignaciones leídas.
+     * @throws IOException - si falla la lectura.
+     * @throws StreamCorruptedException - si el encabezado no es válido.
+     */
+    public HashtableOwner<K, V> importar(DataInput in) throws IOException {
+        return importar(in, Integer.MAX_VALUE, MAX_PREDIMENSIONADO);
+    }
+
+    /**
+     * Lee una tabla escrita con exportar(), aceptando a lo sumo la cantidad
+     * de entradas indicada. La tabla se crea con el tamaño necesario para la
+     * cantidad del encabezado y las entradas se insertan sin llamar a
+     * rehash().
+     * @param in entrada de donde leer.
+     * @param maxEntradas cantidad máxima de entradas que se acepta.
+     * @return la tabla con las asignaciones leídas.
+     * @throws IOException - si falla la lectura.
+     * @throws StreamCorruptedException - si el encabezado no es válido o
+     * anuncia más de maxEntradas entradas.
+     */
+    public HashtableOwner<K, V> importar(DataInput in, int maxEntradas) throws IOException {
+        if (maxEntradas < 0)
+            throw new IllegalArgumentException("maxEntradas: " + maxEntradas);
+
+        return importar(in, maxEntradas, maxEntradas);
+    }
+
+    /**
+     * Lee una tabla escrita con exportar() desde un canal, con un buffer
+     * intermedio. Como el buffer lee por adelantado, el canal no debe
+     * contener otros datos a continuación de la tabla. El canal no se cierra.
+     * Si el canal es un SeekableByteChannel (por ejemplo un FileChannel), la
+     * cantidad del encabezado se acota por los bytes que quedan, ya que cada
+     * entrada ocupa al menos un byte, y la tabla se predimensiona de una vez.
+     * @param canal canal de donde leer.
+     * @return la tabla con las asignaciones leídas.
+     * @throws IOException - si falla la lectura.
+     */
+    public HashtableOwner<K, V> importar(ReadableByteChannel canal) throws IOException {
+        DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Channels.newInputStream(canal), TAMANIO_BUFFER));
+
+        if (canal instanceof SeekableByteChannel) {
+            SeekableByteChannel sbc = (SeekableByteChannel) canal;
+            long restantes = Math.max(0L, sbc.size() - sbc.position());
+            int maxEntradas = (int) Math.min(restantes, Integer.MAX_VALUE);
+
+            return importar(in, maxEntradas, maxEntradas);
+        }
+        return importar((DataInput) in);
+    }
+
+    /**
+     * Helper de los importar(). Lee el encabezado, predimensiona la tabla para
+     * min(cantidad, predimensionadoMaximo) entradas e inserta con cargar().
+     * Solo si la cantidad supera ese predimensionado la tabla se agranda, de
+     * una vez al tamaño para el cuádruple de las entradas leídas (sin pasar
+     * de la cantidad del encabezado).
+     */
+    private HashtableOwner<K, V> importar(DataInput in, int maxEntradas, int predimensionadoMaximo)
+            throws IOException {
+        if (in.readInt() != MAGICO)
+            throw new StreamCorruptedException("No es una Hash Table exportada");
+
+        byte version = in.readByte();
+        if (version != VERSION)
+            throw new StreamCorruptedException("Version no soportada: " + version);
+
+        int cantidad = in.readInt();
+        if (cantidad < 0 || cantidad > maxEntradas)
+            throw new StreamCorruptedException("Cantidad invalida: " + cantidad);
+
+        /*
+         * Con la tabla a lo sumo a la mitad de su capacidad (y tamaño primo)
+         * el sondeo cuadratico siempre encuentra una casilla libre.
+         */
+        int predimensionado = Math.min(cantidad, predimensionadoMaximo);
+        HashtableOwner<K, V> ht = new HashtableOwner<K, V>(casillasPara(predimensionado));
+
+        for (int i = 0; i < cantidad; i++) {
+            K key = codecClave.leer(in);
+            V value = codecValor.leer(in);
+
+            if (2L * (i + 1) > ht.capacidad())
+                ht.redimensionar(casillasPara((int) Math.min(cantidad, 4L * (i + 1))));
+
+            ht.cargar(key, value);
+        }
+        return ht;
+    }
+
+    private static int casillasPara(int entradas) {
+        return (int) Math.min(2L * entradas, MAX_CASILLAS);
+    }
+
+    private void escribirEntrada(DataOutput out, K key, V value, int escritas, int cantidad)
+            throws IOException {
+        if (escritas > cantidad)
+            throw new ConcurrentModificationException();
+
+        codecClave.escribir(out, key);
+        codecValor.escribir(out, value);
+    }
+}
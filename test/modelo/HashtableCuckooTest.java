@@ -0,0 +1,62 @@
+package modelo;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Franco Bacinello
+ */
+public class HashtableCuckooTest
+{
+    /**
+     * Arma 2^bloques Strings distintos con el mismo hashCode() combinando
+     * "Aa" y "BB", que tienen el mismo hash.
+     */
+    private static List<String> clavesColisionadas(int bloques) {
+        List<String> claves = new ArrayList<String>();
+
+        for (int n = 0; n < (1 << bloques); n++) {
+            StringBuilder sb = new StringBuilder();
+            for (int b = 0; b < bloques; b++) {
+                sb.append(((n >> b) & 1) == 0 ? "Aa" : "BB");
+            }
+            claves.add(sb.toString());
+        }
+        return claves;
+    }
+
+    private static void comprobarColisiones(HashtableCuckoo<String, Integer> ht) {
+        List<String> claves = clavesColisionadas(8);
+
+        for (int i = 0; i < claves.size(); i++) {
+            assertNull(ht.put(claves.get(i), i));
+        }
+        assertEquals(claves.size(), ht.size());
+
+        for (int i = 0; i < claves.size(); i++) {
+            assertEquals(Integer.valueOf(i), ht.get(claves.get(i)));
+        }
+
+        for (int i = 0; i < claves.size(); i += 2) {
+            assertEquals(Integer.valueOf(i), ht.remove(claves.get(i)));
+        }
+        assertEquals(claves.size() / 2, ht.size());
+
+        for (int i = 0; i < claves.size(); i++) {
+            assertEquals(i % 2 == 1, ht.containsKey(claves.get(i)));
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void testClavesConMismoHashCodeBucketizado() {
+        comprobarColisiones(new HashtableCuckoo<String, Integer>(16, true));
+    }
+
+    @Test(timeout = 10000)
+    public void testClavesConMismoHashCodeClasico() {
+        comprobarColisiones(new HashtableCuckoo<String, Integer>(16, false));
+    }
+}
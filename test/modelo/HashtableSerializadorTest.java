@@ -0,0 +1,207 @@
+package modelo;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ *
+ * @author Franco Bacinello
+ */
+public class HashtableSerializadorTest
+{
+    /**
+     * Clave con hashCode() negativo y con muchas colisiones, para forzar el
+     * sondeo a dar la vuelta a la tabla.
+     */
+    private static class ClaveNegativa
+    {
+        private final int id;
+
+        ClaveNegativa(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public int hashCode() {
+            return -1 - (id % 3);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return (o instanceof ClaveNegativa) && ((ClaveNegativa) o).id == id;
+        }
+    }
+
+    private static Map<String, Integer> mapaDePrueba(int cantidad) {
+        Map<String, Integer> m = new HashMap<String, Integer>();
+        Random r = new Random(7);
+
+        for (int i = 0; i < cantidad; i++) {
+            m.put("clave" + r.nextInt(), i);
+        }
+        return m;
+    }
+
+    private static void comprobarIgual(Map<String, Integer> esperado, HashtableOwner<String, Integer> ht) {
+        assertEquals(esperado.size(), ht.size());
+
+        for (Map.Entry<String, Integer> e : esperado.entrySet()) {
+            assertTrue(ht.containsKey(e.getKey()));
+            assertEquals(e.getValue(), ht.get(e.getKey()));
+        }
+        assertFalse(ht.containsKey("no-esta"));
+    }
+
+    @Test
+    public void testIdaYVueltaConDataOutput() throws IOException {
+        HashtableSerializador<String, Integer> s =
+                new HashtableSerializador<String, Integer>(Codecs.STRING, Codecs.INTEGER);
+        Map<String, Integer> m = mapaDePrueba(5000);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.exportar(m, new DataOutputStream(bytes));
+
+        HashtableOwner<String, Integer> ht =
+                s.importar(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        comprobarIgual(m, ht);
+
+        /*
+         * Una tabla importada se vuelve a exportar igual.
+         */
+        bytes = new ByteArrayOutputStream();
+        s.exportar(ht, new DataOutputStream(bytes));
+        comprobarIgual(m, s.importar(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+    }
+
+    @Test
+    public void testIdaYVueltaConCanales() throws IOException {
+        HashtableSerializador<String, Integer> s =
+                new HashtableSerializador<String, Integer>(Codecs.STRING, Codecs.INTEGER);
+        Map<String, Integer> m = mapaDePrueba(5000);
+
+        /*
+         * Canal no posicionable.
+         */
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.exportar(m, Channels.newChannel(bytes));
+        comprobarIgual(m, s.importar(Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray()))));
+
+        /*
+         * FileChannel, que acota la cantidad por el tamaño del archivo.
+         */
+        File archivo = File.createTempFile("hashtable", ".bin");
+        archivo.deleteOnExit();
+
+        RandomAccessFile raf = new RandomAccessFile(archivo, "rw");
+        try {
+            FileChannel canal = raf.getChannel();
+            s.exportar(m, canal);
+            canal.position(0);
+            comprobarIgual(m, s.importar(canal));
+        } finally {
+            raf.close();
+        }
+    }
+
+    @Test
+    public void testBytesMayoresA64KB() throws IOException {
+        HashtableSerializador<Integer, byte[]> s =
+                new HashtableSerializador<Integer, byte[]>(Codecs.INTEGER, Codecs.BYTES);
+
+        byte[] grande = new byte[200 * 1024];
+        new Random(3).nextBytes(grande);
+
+        Map<Integer, byte[]> m = new HashMap<Integer, byte[]>();
+        m.put(1, grande);
+        m.put(2, new byte[0]);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.exportar(m, new DataOutputStream(bytes));
+
+        HashtableOwner<Integer, byte[]> ht =
+                s.importar(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertTrue(Arrays.equals(grande, ht.get(1)));
+        assertEquals(0, ht.get(2).length);
+    }
+
+    @Test(expected = IOException.class)
+    public void testStreamTruncado() throws IOException {
+        HashtableSerializador<String, Integer> s =
+                new HashtableSerializador<String, Integer>(Codecs.STRING, Codecs.INTEGER);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        s.exportar(mapaDePrueba(100), new DataOutputStream(bytes));
+
+        byte[] truncado = Arrays.copyOf(bytes.toByteArray(), bytes.size() / 2);
+        s.importar(new DataInputStream(new ByteArrayInputStream(truncado)));
+    }
+
+    @Test(expected = IOException.class)
+    public void testCantidadFalsaEnElEncabezado() throws IOException {
+        HashtableSerializador<String, Integer> s =
+                new HashtableSerializador<String, Integer>(Codecs.STRING, Codecs.INTEGER);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0x48545841);
+        out.writeByte(1);
+        out.writeInt(1000000000);
+
+        s.importar(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test(expected = IOException.class)
+    public void testLongitudFalsaDeBytes() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(Integer.MAX_VALUE);
+        out.write(new byte[100]);
+
+        Codecs.BYTES.leer(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test
+    public void testHashtableOwnerConHashCodeNegativo() {
+        HashtableOwner<Object, Integer> ht = new HashtableOwner<Object, Integer>();
+
+        for (int i = 0; i < 60; i++) {
+            assertNull(ht.put(new ClaveNegativa(i), i));
+            assertNull(ht.put(-1 - i, i));
+        }
+        for (int i = 0; i < 60; i++) {
+            assertEquals(Integer.valueOf(i), ht.put(new ClaveNegativa(i), i + 100));
+            assertTrue(ht.containsKey(-1 - i));
+        }
+
+        /*
+         * Borramos la mitad: las tumbas no deben cortar la busqueda de las
+         * claves que siguen en la secuencia de sondeo, y deben reutilizarse.
+         */
+        for (int i = 0; i < 60; i += 2) {
+            assertEquals(Integer.valueOf(i + 100), ht.remove(new ClaveNegativa(i)));
+            assertNull(ht.remove(new ClaveNegativa(i)));
+        }
+        for (int i = 0; i < 60; i++) {
+            assertEquals(i % 2 == 1, ht.containsKey(new ClaveNegativa(i)));
+            assertEquals((i % 2 == 1) ? Integer.valueOf(i + 100) : null, ht.get(new ClaveNegativa(i)));
+        }
+        for (int i = 0; i < 60; i += 2) {
+            assertNull(ht.put(new ClaveNegativa(i), i));
+        }
+        assertEquals(120, ht.size());
+    }
+}